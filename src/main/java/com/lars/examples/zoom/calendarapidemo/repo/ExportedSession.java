@@ -0,0 +1,8 @@
+package com.lars.examples.zoom.calendarapidemo.repo;
+
+import java.time.LocalDateTime;
+
+public record ExportedSession(long sessionId, LocalDateTime startDate, String sessionName, String hostEmail,
+        String attendeeEmail) {
+
+}
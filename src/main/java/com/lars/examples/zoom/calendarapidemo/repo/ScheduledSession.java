@@ -3,5 +3,24 @@ package com.lars.examples.zoom.calendarapidemo.repo;
 import java.time.LocalDateTime;
 
 public record ScheduledSession(String sessionName, String passCode, LocalDateTime startDate) {
-    
+
+    public static final int SESSION_DURATION_MINUTES = 60;
+    public static final int SESSION_JOIN_BEFORE_START_MINUTES = 15;
+    public static final int SESSION_JOIN_AFTER_END_MINUTES = 15;
+
+    /**
+     * Determines the moment this session can be joined, some minutes before its start
+     * @return the start of the join window
+     */
+    public LocalDateTime joinWindowStart() {
+        return startDate.minusMinutes(SESSION_JOIN_BEFORE_START_MINUTES);
+    }
+
+    /**
+     * Determines the moment this session can no longer be joined, some minutes after its end
+     * @return the end of the join window
+     */
+    public LocalDateTime joinWindowEnd() {
+        return startDate.plusMinutes(SESSION_DURATION_MINUTES + SESSION_JOIN_AFTER_END_MINUTES);
+    }
 }
@@ -1,17 +1,26 @@
 package com.lars.examples.zoom.calendarapidemo.repo;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.simple.JdbcClient;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ScheduledSessionRepo {
 
     private static final String INSERT_SQL = "insert into scheduled_session (start_date, session_name, passcode, host_email, attendee_email) values (:startDate, :sessionName, :passcode, :hostEmail, :attendeeEmail) ";
+    private static final String INCREMENT_DAILY_COUNT_SQL = "merge into scheduled_session_daily_count c using (values (:sessionDay, :hostEmail, :attendeeDomain)) v (session_day, host_email, attendee_domain) on c.session_day = v.session_day and c.host_email = v.host_email and c.attendee_domain = v.attendee_domain when matched then update set session_count = c.session_count + 1 when not matched then insert (session_day, host_email, attendee_domain, session_count) values (v.session_day, v.host_email, v.attendee_domain, 1)";
+    private static final int DAILY_COUNT_ATTEMPTS = 3;
     private static final String SELECT_SQL = "select session_name, start_date, passcode from scheduled_session where session_name = :sessionName";
+    private static final String SELECT_STARTING_AFTER_SQL = "select session_name, start_date, passcode from scheduled_session where start_date > :startDate";
 
     private final JdbcClient jdbcClient;
 
@@ -28,7 +37,10 @@ public class ScheduledSessionRepo {
     }
 
     /**
-     * Inserts a new scheduled session entry into the database
+     * Inserts a new scheduled session entry into the database and increments the matching daily counter.
+     * Concurrent inserts for the same day, host and attendee domain contend for the same counter row. The increment
+     * is retried when it loses that race (duplicate key) or can't get the row lock in time (lock timeout), but if
+     * every attempt fails the exception is thrown and the session insert is rolled back
      * @param startDate the start date of the session
      * @param sessionName session name
      * @param passCode passcode for the session
@@ -36,9 +48,10 @@ public class ScheduledSessionRepo {
      * @param attendeeEmail the attendees email address
      * @return
      */
+    @Transactional
     public int insertScheduledSession(LocalDateTime startDate, String sessionName, String passCode, String hostEmail,
             String attendeeEmail) {
-        return jdbcClient
+        int inserted = jdbcClient
                 .sql(INSERT_SQL)
                 .param("startDate", startDate)
                 .param("sessionName", sessionName)
@@ -46,6 +59,17 @@ public class ScheduledSessionRepo {
                 .param("hostEmail", hostEmail)
                 .param("attendeeEmail", attendeeEmail)
                 .update();
+        for (int attempt = 1;; attempt++) {
+            try {
+                incrementDailyCount(startDate, hostEmail, attendeeEmail);
+                return inserted;
+            } catch (DuplicateKeyException | ConcurrencyFailureException e) {
+                // A concurrent insert created or holds the counter, H2 only fails the statement so it can be retried
+                if (attempt == DAILY_COUNT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
 
     /**
@@ -59,4 +83,42 @@ public class ScheduledSessionRepo {
                 .param("sessionName", sessionName)
                 .query(rowMapper).optional();
     }
+
+    /**
+     * Streams all scheduled sessions that start after the given date to the consumer, without loading them all in memory
+     * @param startDate the date after which sessions should start
+     * @param consumer the consumer to hand each scheduled session to
+     */
+    public void forEachScheduledSessionStartingAfter(LocalDateTime startDate, Consumer<ScheduledSession> consumer) {
+        try (Stream<ScheduledSession> sessions = jdbcClient
+                .sql(SELECT_STARTING_AFTER_SQL)
+                .param("startDate", startDate)
+                .query(rowMapper).stream()) {
+            sessions.forEach(consumer);
+        }
+    }
+
+    /**
+     * Increments the daily counter for the given day, host and attendee domain, creating it if needed
+     * @param startDate the start date of the session
+     * @param hostEmail the hosts email address
+     * @param attendeeEmail the attendees email address
+     */
+    private void incrementDailyCount(LocalDateTime startDate, String hostEmail, String attendeeEmail) {
+        jdbcClient
+                .sql(INCREMENT_DAILY_COUNT_SQL)
+                .param("sessionDay", startDate.toLocalDate())
+                .param("hostEmail", hostEmail)
+                .param("attendeeDomain", toDomain(attendeeEmail))
+                .update();
+    }
+
+    /**
+     * Extracts the (lower case) domain from an email address
+     * @param email the email address
+     * @return the part after the last '@', or the whole address if it has none
+     */
+    private static String toDomain(String email) {
+        return email.substring(email.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,123 @@
+package com.lars.examples.zoom.calendarapidemo.repo;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ScheduledSessionReportRepo {
+
+    private static final String EXPORT_SQL = "select session_id, start_date, session_name, host_email, attendee_email from scheduled_session order by session_id";
+    private static final String ENABLE_LAZY_QUERY_EXECUTION_SQL = "set lazy_query_execution true";
+    private static final String DISABLE_LAZY_QUERY_EXECUTION_SQL = "set lazy_query_execution false";
+    private static final String COUNT_PER_DAY_SQL = "select cast(session_day as varchar) as session_group, sum(session_count) as session_count from scheduled_session_daily_count where session_day between :from and :to group by session_day order by session_day";
+    private static final String COUNT_PER_HOST_SQL = "select host_email as session_group, sum(session_count) as session_count from scheduled_session_daily_count where session_day between :from and :to group by host_email order by host_email";
+    private static final String COUNT_PER_ATTENDEE_DOMAIN_SQL = "select attendee_domain as session_group, sum(session_count) as session_count from scheduled_session_daily_count where session_day between :from and :to group by attendee_domain order by attendee_domain";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcClient jdbcClient;
+    private final int fetchSize;
+
+    private RowMapper<ExportedSession> exportRowMapper = (rs, rowNum) -> new ExportedSession(
+            rs.getLong("session_id"),
+            rs.getTimestamp("start_date").toLocalDateTime(),
+            rs.getString("session_name"),
+            rs.getString("host_email"),
+            rs.getString("attendee_email"));
+
+    private RowMapper<SessionCount> countRowMapper = (rs, rowNum) -> new SessionCount(
+            rs.getString("session_group"),
+            rs.getLong("session_count"));
+
+    /**
+     * Constructor, sets up database connectivity
+     * @param dataSource the data source
+     * @param fetchSize the number of rows the export fetches per round trip. Only used on client/server connections,
+     *                  an embedded H2 database ignores it
+     */
+    public ScheduledSessionReportRepo(DataSource dataSource, @Value("${reports.export.fetchsize}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcClient = JdbcClient.create(jdbcTemplate);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Hands all scheduled sessions to the consumer, one at a time, as they are read from a forward-only cursor.
+     * An embedded H2 database computes the whole result before returning the first row, unless lazy query execution
+     * is enabled. That is only done for the connection the export runs on, and undone afterwards, so other queries
+     * on the (pooled) connection are not affected
+     * @param consumer the consumer to hand each exported session to
+     */
+    public void exportScheduledSessions(Consumer<ExportedSession> consumer) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(ENABLE_LAZY_QUERY_EXECUTION_SQL);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                try (ResultSet rs = statement.executeQuery()) {
+                    int rowNum = 0;
+                    while (rs.next()) {
+                        consumer.accept(exportRowMapper.mapRow(rs, rowNum++));
+                    }
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(DISABLE_LAZY_QUERY_EXECUTION_SQL);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Retrieves the number of scheduled sessions per day, from the pre-aggregated daily counters
+     * @param from the first day to include
+     * @param to the last day to include
+     * @return session counts, grouped by day (ISO format)
+     */
+    public List<SessionCount> countSessionsPerDay(LocalDate from, LocalDate to) {
+        return countSessions(COUNT_PER_DAY_SQL, from, to);
+    }
+
+    /**
+     * Retrieves the number of scheduled sessions per host, from the pre-aggregated daily counters
+     * @param from the first day to include
+     * @param to the last day to include
+     * @return session counts, grouped by host email address
+     */
+    public List<SessionCount> countSessionsPerHost(LocalDate from, LocalDate to) {
+        return countSessions(COUNT_PER_HOST_SQL, from, to);
+    }
+
+    /**
+     * Retrieves the number of scheduled sessions per attendee domain, from the pre-aggregated daily counters
+     * @param from the first day to include
+     * @param to the last day to include
+     * @return session counts, grouped by attendee email domain
+     */
+    public List<SessionCount> countSessionsPerAttendeeDomain(LocalDate from, LocalDate to) {
+        return countSessions(COUNT_PER_ATTENDEE_DOMAIN_SQL, from, to);
+    }
+
+    private List<SessionCount> countSessions(String sql, LocalDate from, LocalDate to) {
+        return jdbcClient
+                .sql(sql)
+                .param("from", from)
+                .param("to", to)
+                .query(countRowMapper).list();
+    }
+}
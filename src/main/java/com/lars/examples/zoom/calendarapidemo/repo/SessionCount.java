@@ -0,0 +1,5 @@
+package com.lars.examples.zoom.calendarapidemo.repo;
+
+public record SessionCount(String group, long sessionCount) {
+
+}
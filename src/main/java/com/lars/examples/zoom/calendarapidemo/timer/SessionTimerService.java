@@ -0,0 +1,178 @@
+package com.lars.examples.zoom.calendarapidemo.timer;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.lars.examples.zoom.calendarapidemo.repo.ScheduledSession;
+import com.lars.examples.zoom.calendarapidemo.repo.ScheduledSessionRepo;
+
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class SessionTimerService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionTimerService.class);
+
+    private static final long TICK_MILLIS = 1000;
+
+    private final ScheduledSessionRepo ssr;
+    private final ExecutorService callbackExecutor;
+    private final TimingWheel timingWheel;
+
+    private final Map<String, SessionTimers> sessionTimers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor, starts a timing wheel on the system clock. Callbacks run on virtual threads so slow ones don't
+     * hold up the wheel
+     * @param scheduledSessionRepo Database repository
+     */
+    @Autowired
+    public SessionTimerService(ScheduledSessionRepo scheduledSessionRepo) {
+        this(scheduledSessionRepo, Executors.newVirtualThreadPerTaskExecutor());
+        timingWheel.start();
+    }
+
+    private SessionTimerService(ScheduledSessionRepo scheduledSessionRepo, ExecutorService callbackExecutor) {
+        this(scheduledSessionRepo, callbackExecutor, new TimingWheel(TICK_MILLIS, callbackExecutor));
+    }
+
+    /**
+     * Constructor for a given timing wheel, which is expected to run its callbacks on the given executor.
+     * The wheel provides the current time and is not started here
+     * @param scheduledSessionRepo Database repository
+     * @param callbackExecutor the executor the wheel runs its callbacks on, shut down together with the wheel
+     * @param timingWheel the timing wheel
+     */
+    SessionTimerService(ScheduledSessionRepo scheduledSessionRepo, ExecutorService callbackExecutor,
+            TimingWheel timingWheel) {
+        this.ssr = scheduledSessionRepo;
+        this.callbackExecutor = callbackExecutor;
+        this.timingWheel = timingWheel;
+    }
+
+    /**
+     * Schedules timers for all sessions that can still be joined, once the application (and database) is ready.
+     * Sessions whose join window already opened don't get their join window opened timer again
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadUpcomingSessions() {
+        LocalDateTime joinableAfter = toLocalDateTime(timingWheel.currentTimeMillis())
+                .minusMinutes(ScheduledSession.SESSION_DURATION_MINUTES + ScheduledSession.SESSION_JOIN_AFTER_END_MINUTES);
+        ssr.forEachScheduledSessionStartingAfter(joinableAfter,
+                scheduledSession -> scheduleSessionTimers(scheduledSession, false));
+        LOGGER.info("Scheduled {} session timers", timingWheel.pendingTimers());
+    }
+
+    /**
+     * Schedules the timers for a session: one when its join window opens and one when it closes.
+     * Any timers previously scheduled for a session with the same name are cancelled
+     * @param scheduledSession the scheduled session
+     */
+    public void scheduleSessionTimers(ScheduledSession scheduledSession) {
+        scheduleSessionTimers(scheduledSession, true);
+    }
+
+    /**
+     * Stops the timing wheel and its callback executor
+     */
+    @PreDestroy
+    public void shutdown() {
+        timingWheel.shutdown();
+        callbackExecutor.shutdown();
+    }
+
+    /**
+     * Schedules the timers for a session, nothing is scheduled for sessions that can no longer be joined
+     * @param scheduledSession the scheduled session
+     * @param notifyOpenedWindow whether a join window that already opened should still be notified (on the next tick)
+     */
+    private void scheduleSessionTimers(ScheduledSession scheduledSession, boolean notifyOpenedWindow) {
+        long now = timingWheel.currentTimeMillis();
+        long joinWindowStart = toEpochMillis(scheduledSession.joinWindowStart());
+        long joinWindowEnd = toEpochMillis(scheduledSession.joinWindowEnd());
+        if (joinWindowEnd <= now) {
+            return;
+        }
+
+        TimingWheel.Timeout joinWindowOpened = null;
+        if (notifyOpenedWindow || joinWindowStart > now) {
+            joinWindowOpened = timingWheel.schedule(joinWindowStart, () -> onJoinWindowOpened(scheduledSession));
+        }
+        SessionTimers timers = new SessionTimers(joinWindowOpened,
+                timingWheel.schedule(joinWindowEnd, timeout -> onJoinWindowClosed(scheduledSession, timeout)));
+
+        SessionTimers previous = sessionTimers.put(scheduledSession.sessionName(), timers);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * Called when a session can be joined, this is the moment to remind the attendee
+     * @param scheduledSession the scheduled session
+     */
+    private void onJoinWindowOpened(ScheduledSession scheduledSession) {
+        LOGGER.info("Session {} can now be joined, starts at {}", scheduledSession.sessionName(),
+                scheduledSession.startDate());
+    }
+
+    /**
+     * Called when a session can no longer be joined, drops the timers kept for it unless they have been replaced
+     * in the meantime
+     * @param scheduledSession the scheduled session
+     * @param timeout the join window closed timer that fired
+     */
+    private void onJoinWindowClosed(ScheduledSession scheduledSession, TimingWheel.Timeout timeout) {
+        sessionTimers.computeIfPresent(scheduledSession.sessionName(),
+                (sessionName, timers) -> timers.joinWindowClosed() == timeout ? null : timers);
+        LOGGER.info("Session {} can no longer be joined", scheduledSession.sessionName());
+    }
+
+    /**
+     * Converts a date to epoch milliseconds, in the same (system default) zone the session validation uses
+     * @param date the date to convert
+     * @return the date in epoch milliseconds
+     */
+    private static long toEpochMillis(LocalDateTime date) {
+        return date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Checks whether timers are kept for a session
+     * @param sessionName the name of the session
+     * @return true if the session has timers that have not all fired yet
+     */
+    boolean hasSessionTimers(String sessionName) {
+        return sessionTimers.containsKey(sessionName);
+    }
+
+    /**
+     * Converts epoch milliseconds to a date in the system default zone
+     * @param epochMillis the moment to convert
+     * @return the date
+     */
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private record SessionTimers(TimingWheel.Timeout joinWindowOpened, TimingWheel.Timeout joinWindowClosed) {
+        private void cancel() {
+            if (joinWindowOpened != null) {
+                joinWindowOpened.cancel();
+            }
+            joinWindowClosed.cancel();
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.lars.examples.zoom.calendarapidemo.timer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hierarchical timing wheel. Timers are kept in intrusive doubly-linked buckets, so scheduling and cancelling are
+ * O(1) and each pending timer costs a single {@link Timeout} node. Timers far in the future live on a coarser level
+ * and are cascaded down to a finer level as their deadline approaches. Expired callbacks are handed to the supplied
+ * executor, the wheel itself only does bookkeeping on its own ticker thread.
+ */
+public class TimingWheel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimingWheel.class);
+
+    private static final int WHEEL_BITS = 6; // 64 slots per level
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 5; // 64^5 ticks, a bit over 34 years with a one second tick
+
+    private final long tickMillis;
+    private final Executor callbackExecutor;
+    private final LongSupplier clock;
+
+    private final Bucket[][] wheels = new Bucket[LEVELS][WHEEL_SIZE];
+    private final Object lock = new Object();
+    private ScheduledExecutorService ticker;
+    private boolean shutdown;
+    private long currentTick;
+    private int pending;
+
+    /**
+     * Constructor, the wheel only advances once it is started
+     * @param tickMillis resolution of the wheel in milliseconds
+     * @param callbackExecutor the executor expired callbacks are run on
+     */
+    public TimingWheel(long tickMillis, Executor callbackExecutor) {
+        this(tickMillis, callbackExecutor, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor, the wheel only advances once it is started
+     * @param tickMillis resolution of the wheel in milliseconds
+     * @param callbackExecutor the executor expired callbacks are run on
+     * @param clock source of the current time in epoch milliseconds
+     */
+    public TimingWheel(long tickMillis, Executor callbackExecutor, LongSupplier clock) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.callbackExecutor = callbackExecutor;
+        this.clock = clock;
+        for (Bucket[] wheel : wheels) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                wheel[slot] = new Bucket();
+            }
+        }
+        this.currentTick = clock.getAsLong() / tickMillis;
+    }
+
+    /**
+     * Starts the ticker thread, which advances the wheel every tick
+     * @throws IllegalStateException if the wheel was already started or has been shut down
+     */
+    public void start() {
+        synchronized (lock) {
+            if (ticker != null || shutdown) {
+                throw new IllegalStateException("Timing wheel can only be started once");
+            }
+            ticker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("timing-wheel").daemon().factory());
+            ticker.scheduleAtFixedRate(this::advanceToNow, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Schedules a callback to run at the given moment. Deadlines in the past fire on the next tick
+     * @param deadlineMillis the moment to run the callback, in epoch milliseconds
+     * @param task the callback to run
+     * @return handle that can be used to cancel the timer
+     */
+    public Timeout schedule(long deadlineMillis, Runnable task) {
+        return schedule(deadlineMillis, timeout -> task.run());
+    }
+
+    /**
+     * Schedules a callback to run at the given moment. Deadlines in the past fire on the next tick.
+     * Once the wheel has been shut down the timer is not scheduled, the returned handle is already cancelled
+     * @param deadlineMillis the moment to run the callback, in epoch milliseconds
+     * @param task the callback to run, receives the handle of the timer that fired
+     * @return handle that can be used to cancel the timer
+     */
+    public Timeout schedule(long deadlineMillis, Consumer<Timeout> task) {
+        // Round up, a timer never fires before its deadline
+        Timeout timeout = new Timeout(this, Math.ceilDiv(deadlineMillis, tickMillis), task);
+        synchronized (lock) {
+            if (shutdown) {
+                return timeout;
+            }
+            place(timeout, currentTick + 1); // the current tick has already been processed
+            pending++;
+        }
+        return timeout;
+    }
+
+    /**
+     * Retrieves the number of timers that have been scheduled but not yet fired or cancelled
+     * @return the number of pending timers
+     */
+    public int pendingTimers() {
+        synchronized (lock) {
+            return pending;
+        }
+    }
+
+    /**
+     * Retrieves the current time of the clock the wheel runs on
+     * @return the current time in epoch milliseconds
+     */
+    public long currentTimeMillis() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * Stops the ticker thread. Pending timers are dropped and no new timers are accepted
+     */
+    public void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            pending = 0;
+            if (ticker != null) {
+                ticker.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel until it has caught up with the clock, firing every timer that expired on the way
+     */
+    void advanceToNow() {
+        long nowTick = clock.getAsLong() / tickMillis;
+        synchronized (lock) {
+            while (!shutdown && currentTick < nowTick) {
+                currentTick++;
+                cascade();
+                expire(wheels[0][(int) (currentTick & WHEEL_MASK)]);
+            }
+        }
+    }
+
+    /**
+     * Moves the timers of the higher level slots that line up with the current tick one or more levels down
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+                // Lower level has not wrapped around, so nothing to cascade from this level or above
+                return;
+            }
+            Bucket bucket = wheels[level][(int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)];
+            Timeout timeout = bucket.detachAll();
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.next = null;
+                place(timeout, currentTick); // the current level 0 slot is expired right after cascading
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * Fires the timers of a level 0 bucket. Timers that are beyond the wheel span wrap around and are placed again.
+     * A timer that can't be handed to the executor is logged and dropped, so the rest of the bucket and the ticker
+     * keep going
+     * @param bucket the bucket of the current tick
+     */
+    private void expire(Bucket bucket) {
+        Timeout timeout = bucket.detachAll();
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.next = null;
+            if (timeout.deadlineTick <= currentTick) {
+                pending--;
+                Timeout expired = timeout;
+                try {
+                    callbackExecutor.execute(() -> expired.task.accept(expired));
+                } catch (RuntimeException e) {
+                    LOGGER.error("Could not run expired timer", e);
+                }
+            } else {
+                place(timeout, currentTick + 1);
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Places a timer in the finest level that can hold its deadline. Must be called while holding the lock
+     * @param timeout the timer to place
+     * @param earliestTick the first tick that still will be processed, overdue timers are placed there
+     */
+    private void place(Timeout timeout, long earliestTick) {
+        long tick = Math.max(timeout.deadlineTick, earliestTick);
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        wheels[level][(int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK)].add(timeout);
+    }
+
+    /**
+     * Removes a timer from its bucket, if it is still pending
+     * @param timeout the timer to remove
+     * @return true if the timer was pending and is now cancelled
+     */
+    private boolean cancel(Timeout timeout) {
+        synchronized (lock) {
+            if (shutdown || timeout.bucket == null) {
+                return false;
+            }
+            timeout.bucket.remove(timeout);
+            pending--;
+            return true;
+        }
+    }
+
+    /**
+     * Handle to a scheduled timer
+     */
+    public static final class Timeout {
+        private final TimingWheel wheel;
+        private final long deadlineTick;
+        private final Consumer<Timeout> task;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, long deadlineTick, Consumer<Timeout> task) {
+            this.wheel = wheel;
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        /**
+         * Cancels the timer
+         * @return true if the timer was still pending, false if it already fired or was cancelled before
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+    }
+
+    /**
+     * A single slot of a wheel level, an intrusive doubly-linked list of timers
+     */
+    private static final class Bucket {
+        private Timeout head;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        /**
+         * Empties the bucket
+         * @return the former head of the list, chained through {@link Timeout#next}
+         */
+        private Timeout detachAll() {
+            Timeout first = head;
+            head = null;
+            for (Timeout timeout = first; timeout != null; timeout = timeout.next) {
+                timeout.bucket = null;
+                timeout.prev = null;
+            }
+            return first;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.lars.examples.zoom.calendarapidemo.web;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lars.examples.zoom.calendarapidemo.repo.ExportedSession;
+import com.lars.examples.zoom.calendarapidemo.repo.ScheduledSessionReportRepo;
+import com.lars.examples.zoom.calendarapidemo.repo.SessionCount;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+public class SessionReportController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionReportController.class);
+
+    private static final String BEARER_TOKEN_PREFIX = "Bearer ";
+
+    private static final String FORMAT_CSV = "csv";
+    private static final String FORMAT_NDJSON = "ndjson";
+    private static final String CSV_FORMULA_CHARACTERS = "=+-@\t\r";
+    private static final String CSV_LINE_END = "\r\n"; // RFC 4180
+    private static final String CSV_HEADER = "session_id,start_date,session_name,host_email,attendee_email" + CSV_LINE_END;
+
+    private static final String GROUP_BY_DAY = "day";
+    private static final String GROUP_BY_HOST = "host";
+    private static final String GROUP_BY_DOMAIN = "domain";
+
+    private final ScheduledSessionReportRepo ssrr;
+    private final ObjectMapper objectMapper;
+    private final String reportsToken; // provided at runtime via environment variable
+
+    /**
+     * Constructor. The reports token is provided at runtime via an environment variable, the reports are disabled
+     * when it is not set. See application.properties for the variable
+     * @param scheduledSessionReportRepo Database repository for reports
+     * @param objectMapper JSON mapper used for the NDJSON export
+     * @param reportsToken the token callers have to present as a bearer token
+     */
+    public SessionReportController(ScheduledSessionReportRepo scheduledSessionReportRepo, ObjectMapper objectMapper,
+            @Value("${reports.token}") String reportsToken) {
+        this.ssrr = scheduledSessionReportRepo;
+        this.objectMapper = objectMapper;
+        this.reportsToken = reportsToken;
+    }
+
+    /**
+     * Exports all scheduled sessions as CSV or NDJSON. Rows are written to the response as they are read from the
+     * database, so memory use does not depend on the number of sessions. Passcodes are not exported.
+     * Once rows have been sent the status can no longer change, so a failure halfway is logged and the client ends up
+     * with a truncated file
+     * @param format either 'csv' (default) or 'ndjson'
+     * @param authorization the Authorization header, should hold the reports token as a bearer token
+     * @param response the response to write the export to
+     * @throws IOException if writing to the response fails
+     */
+    @GetMapping("/reports/sessions/export")
+    public void exportSessions(@RequestParam(defaultValue = FORMAT_CSV) String format,
+            @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            HttpServletResponse response) throws IOException {
+        checkAuthorization(authorization);
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+
+        boolean csv = FORMAT_CSV.equals(format);
+        response.setContentType(csv ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"scheduled-sessions." + format + "\"");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        try {
+            if (csv) {
+                writer.write(CSV_HEADER);
+            }
+            ssrr.exportScheduledSessions(session -> {
+                try {
+                    writer.write(csv ? toCsvLine(session) : objectMapper.writeValueAsString(session) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            LOGGER.error("Export of scheduled sessions failed, the response may be truncated", e.getCause());
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Export of scheduled sessions failed, the response may be truncated", e);
+            throw e;
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Retrieves the number of scheduled sessions, grouped by day, host or attendee domain.
+     * Served from the daily counters that are maintained on insert, so the sessions themselves are not scanned
+     * @param by either 'day' (default), 'host' or 'domain'
+     * @param from the first session day to include
+     * @param to the last session day to include
+     * @param authorization the Authorization header, should hold the reports token as a bearer token
+     * @return the session counts per group
+     */
+    @GetMapping("/reports/sessions/summary")
+    public List<SessionCount> summarizeSessions(@RequestParam(defaultValue = GROUP_BY_DAY) String by,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        checkAuthorization(authorization);
+        return switch (by) {
+            case GROUP_BY_DAY -> ssrr.countSessionsPerDay(from, to);
+            case GROUP_BY_HOST -> ssrr.countSessionsPerHost(from, to);
+            case GROUP_BY_DOMAIN -> ssrr.countSessionsPerAttendeeDomain(from, to);
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported grouping: " + by);
+        };
+    }
+
+    /**
+     * Checks that the reports are enabled and the caller presented the reports token.
+     * Reports contain attendee email addresses and session names, so they are never served without the token
+     * @param authorization the Authorization header, if any
+     * @throws ResponseStatusException 404 if no reports token is configured, 401 if the token is missing or wrong
+     */
+    private void checkAuthorization(String authorization) {
+        if (reportsToken.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        String expected = BEARER_TOKEN_PREFIX + reportsToken;
+        // Constant time comparison, so the token can't be guessed by timing the response
+        if (authorization == null || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                authorization.getBytes(StandardCharsets.UTF_8))) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+    }
+
+    /**
+     * Formats an exported session as a CSV line
+     * @param session the exported session
+     * @return the CSV line, including CRLF line terminator
+     */
+    private static String toCsvLine(ExportedSession session) {
+        return session.sessionId() + ","
+                + session.startDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + ","
+                + toCsvValue(session.sessionName()) + ","
+                + toCsvValue(session.hostEmail()) + ","
+                + toCsvValue(session.attendeeEmail()) + CSV_LINE_END;
+    }
+
+    /**
+     * Quotes a CSV value if it contains a separator, quote or line break. Values that a spreadsheet would read as a
+     * formula are prefixed with a single quote (and quoted), so they are shown as text
+     * @param value the value to quote
+     * @return the value, quoted if needed
+     */
+    private static String toCsvValue(String value) {
+        if (!value.isEmpty() && CSV_FORMULA_CHARACTERS.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        } else if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import com.lars.examples.zoom.calendarapidemo.ZoomApiConfiguration;
 import com.lars.examples.zoom.calendarapidemo.repo.ScheduledSession;
 import com.lars.examples.zoom.calendarapidemo.repo.ScheduledSessionRepo;
+import com.lars.examples.zoom.calendarapidemo.timer.SessionTimerService;
 import com.lars.examples.zoom.calendarapidemo.zoom.AccessTokenResponse;
 import com.lars.examples.zoom.calendarapidemo.zoom.ZoomApiUtil;
 import com.lars.examples.zoom.calendarapidemo.zoom.calendar.Attendee;
@@ -30,15 +31,12 @@ public class SessionScheduleController {
 
     private final ZoomApiConfiguration zac;
     private final ScheduledSessionRepo ssr;
+    private final SessionTimerService sts;
 
     private final SecureRandom randomNumberGenerator;
     private static final char[] ALLOWED_PASSCODE_CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ01234567890".toCharArray();
     private static final int PASSCODE_MAX_LENGTH = 8;
 
-    private static final int SESSION_DURATION_MINUTES = 60;
-    private static final int SESSION_JOIN_BEFORE_START_MINUTES = 15;
-    private static final int SESSION_JOIN_AFTER_END_MINUTES = 15;
-
     private static final String LOCAL_TIMEZONE = "Europe/Amsterdam";
     private static final String CALENDAR_EVENT_DESCRIPTION_PREFIX = "Your session join link is: \n";
     private static final String CALENDAR_EVENT_LOCATION = "Zoom Video SDK session";
@@ -52,13 +50,16 @@ public class SessionScheduleController {
      * Constructor
      * @param scheduledSessionRepo Database repository
      * @param zoomApiConfiguration API and other configuration
+     * @param sessionTimerService Timers for the scheduled sessions
      * @throws NoSuchAlgorithmException in case SHA1PRNG is not supported
      * @throws UnsupportedEncodingException if UTF-8 is not supported for some reason
      */
     public SessionScheduleController(ScheduledSessionRepo scheduledSessionRepo,
-            ZoomApiConfiguration zoomApiConfiguration) throws NoSuchAlgorithmException, UnsupportedEncodingException {
+            ZoomApiConfiguration zoomApiConfiguration, SessionTimerService sessionTimerService)
+            throws NoSuchAlgorithmException, UnsupportedEncodingException {
         this.ssr = scheduledSessionRepo;
         this.zac = zoomApiConfiguration;
+        this.sts = sessionTimerService;
         this.randomNumberGenerator = SecureRandom.getInstance(SHA1PRNG_ALGO); // RNG for generating passcodes
     }
 
@@ -149,13 +150,12 @@ public class SessionScheduleController {
             validationError = "You are not allowed to access this session";
         }
 
-        if (LocalDateTime.now().isBefore(scheduledSession.startDate().minusMinutes(SESSION_JOIN_BEFORE_START_MINUTES))) {
+        if (LocalDateTime.now().isBefore(scheduledSession.joinWindowStart())) {
             // Session can't be joined more than 15 minutes early
             validationError = "This session has not started yet, please try again later, but no earlier than 15 minutes before start";
         }
 
-        if (LocalDateTime.now()
-                .isAfter(scheduledSession.startDate().plusMinutes(SESSION_DURATION_MINUTES + SESSION_JOIN_AFTER_END_MINUTES))) {
+        if (LocalDateTime.now().isAfter(scheduledSession.joinWindowEnd())) {
             // Session can't be joined more than 15 minutes after it ended
             validationError = "This session has already ended and can no longer be joined";
         }
@@ -164,7 +164,7 @@ public class SessionScheduleController {
     }
 
     /**
-     * Stores the scheduled session in the database
+     * Stores the scheduled session in the database and schedules its timers
      * @param attendeeEmail the email of the attendee
      * @param sessionDate the date of the session in LocalDateTime format
      * @param sessionName the name of the session
@@ -175,6 +175,7 @@ public class SessionScheduleController {
             String passCode)
             throws UnsupportedEncodingException {
         ssr.insertScheduledSession(sessionDate, sessionName, passCode, zac.getCalendarId(), attendeeEmail);
+        sts.scheduleSessionTimers(new ScheduledSession(sessionName, passCode, sessionDate));
     }
 
     /**
@@ -202,7 +203,7 @@ public class SessionScheduleController {
 
         // Determine end time based on start time + 60 minutes and format them
         String sessionStartString = sessionStart.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        LocalDateTime sessionEnd = sessionStart.plusMinutes(SESSION_DURATION_MINUTES);
+        LocalDateTime sessionEnd = sessionStart.plusMinutes(ScheduledSession.SESSION_DURATION_MINUTES);
         String sessionEndString = sessionEnd.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
         CreateCalendarEventRequest request = new CreateCalendarEventRequest(
@@ -5,4 +5,12 @@ CREATE TABLE scheduled_session (
   passcode VARCHAR(50) NOT NULL,
   host_email VARCHAR(50) NOT NULL,
   attendee_email VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE scheduled_session_daily_count (
+  session_day DATE NOT NULL,
+  host_email VARCHAR(50) NOT NULL,
+  attendee_domain VARCHAR(50) NOT NULL,
+  session_count BIGINT NOT NULL,
+  PRIMARY KEY (session_day, host_email, attendee_domain)
 );
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.lars.examples.zoom.calendarapidemo.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class ScheduledSessionRepoTest {
+
+    private static final int THREADS = 8;
+    private static final int INSERTS_PER_THREAD = 25;
+    private static final String CONCURRENT_HOST_EMAIL = "concurrent@example.com";
+    private static final String COUNT_SESSIONS_SQL = "select count(*) from scheduled_session where host_email = :hostEmail";
+    private static final String DELETE_SESSIONS_SQL = "delete from scheduled_session where host_email = :hostEmail";
+    private static final String DELETE_DAILY_COUNTS_SQL = "delete from scheduled_session_daily_count where host_email = :hostEmail";
+    private static final String SELECT_DAILY_COUNT_SQL = "select session_count from scheduled_session_daily_count where session_day = :sessionDay and host_email = :hostEmail and attendee_domain = :attendeeDomain";
+
+    @Autowired
+    private ScheduledSessionRepo ssr;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @Test
+    void insertIncrementsDailyCounter() {
+        ssr.insertScheduledSession(LocalDateTime.of(2030, 1, 1, 10, 0), "session-1", "passcode", "host@example.com",
+                "first@Example.COM");
+        ssr.insertScheduledSession(LocalDateTime.of(2030, 1, 1, 23, 30), "session-2", "passcode", "host@example.com",
+                "second@example.com");
+        ssr.insertScheduledSession(LocalDateTime.of(2030, 1, 2, 0, 30), "session-3", "passcode", "host@example.com",
+                "third@example.com");
+        ssr.insertScheduledSession(LocalDateTime.of(2030, 1, 1, 11, 0), "session-4", "passcode", "other@example.com",
+                "fourth@example.com");
+
+        assertEquals(2, dailyCount(LocalDate.of(2030, 1, 1), "host@example.com", "example.com"));
+        assertEquals(1, dailyCount(LocalDate.of(2030, 1, 2), "host@example.com", "example.com"));
+        assertEquals(1, dailyCount(LocalDate.of(2030, 1, 1), "other@example.com", "example.com"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // every insert commits on its own, like in the app
+    void concurrentInsertsKeepDailyCounterConsistent() throws Exception {
+        LocalDateTime startDate = LocalDateTime.of(2030, 2, 1, 10, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> inserts = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int threadNumber = thread;
+                inserts.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < INSERTS_PER_THREAD; i++) {
+                        ssr.insertScheduledSession(startDate, "session-" + threadNumber + "-" + i, "passcode",
+                                CONCURRENT_HOST_EMAIL, "attendee@example.com");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> insert : inserts) {
+                insert.get(); // fails the test if any insert failed
+            }
+
+            long sessions = jdbcClient.sql(COUNT_SESSIONS_SQL).param("hostEmail", CONCURRENT_HOST_EMAIL)
+                    .query(Long.class).single();
+            assertEquals(THREADS * INSERTS_PER_THREAD, sessions);
+            assertEquals(sessions, dailyCount(startDate.toLocalDate(), CONCURRENT_HOST_EMAIL, "example.com"));
+        } finally {
+            executor.shutdownNow();
+            jdbcClient.sql(DELETE_SESSIONS_SQL).param("hostEmail", CONCURRENT_HOST_EMAIL).update();
+            jdbcClient.sql(DELETE_DAILY_COUNTS_SQL).param("hostEmail", CONCURRENT_HOST_EMAIL).update();
+        }
+    }
+
+    private long dailyCount(LocalDate sessionDay, String hostEmail, String attendeeDomain) {
+        return jdbcClient
+                .sql(SELECT_DAILY_COUNT_SQL)
+                .param("sessionDay", sessionDay)
+                .param("hostEmail", hostEmail)
+                .param("attendeeDomain", attendeeDomain)
+                .query(Long.class).single();
+    }
+}
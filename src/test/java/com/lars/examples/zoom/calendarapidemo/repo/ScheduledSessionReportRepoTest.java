@@ -0,0 +1,46 @@
+package com.lars.examples.zoom.calendarapidemo.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class ScheduledSessionReportRepoTest {
+
+    private static final int ROWS = 100_000;
+    private static final String INSERT_ROWS_SQL = "insert into scheduled_session (start_date, session_name, passcode, host_email, attendee_email) select dateadd(minute, x, timestamp '2030-01-01 00:00:00'), concat('session-', x), 'passcode', 'host@example.com', 'attendee@example.com' from system_range(1, :rows)";
+    private static final String COUNT_SQL = "select count(*) from scheduled_session";
+
+    @Autowired
+    private ScheduledSessionReportRepo ssrr;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @Test
+    void exportsAllRowsInOrder() {
+        jdbcClient.sql(INSERT_ROWS_SQL).param("rows", ROWS).update();
+
+        AtomicLong exported = new AtomicLong();
+        AtomicLong lastSessionId = new AtomicLong(Long.MIN_VALUE);
+        ssrr.exportScheduledSessions(session -> {
+            long row = exported.incrementAndGet();
+            assertTrue(session.sessionId() > lastSessionId.getAndSet(session.sessionId()));
+            assertEquals("session-" + row, session.sessionName());
+            assertEquals(LocalDateTime.of(2030, 1, 1, 0, 0).plusMinutes(row), session.startDate());
+        });
+
+        assertEquals(ROWS, exported.get());
+        // The export runs on the transaction's connection, which must still serve regular queries afterwards
+        assertEquals(ROWS, jdbcClient.sql(COUNT_SQL).query(Long.class).single());
+    }
+}
@@ -0,0 +1,185 @@
+package com.lars.examples.zoom.calendarapidemo.timer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.lars.examples.zoom.calendarapidemo.repo.ScheduledSession;
+import com.lars.examples.zoom.calendarapidemo.repo.ScheduledSessionRepo;
+
+class SessionTimerServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private final AtomicLong clock = new AtomicLong(toEpochMillis(NOW));
+    private final QueuedExecutor executor = new QueuedExecutor();
+    private final ScheduledSessionRepo ssr = mock(ScheduledSessionRepo.class);
+    private TimingWheel wheel;
+    private SessionTimerService sts;
+
+    @BeforeEach
+    void createService() {
+        wheel = new TimingWheel(1000, executor, clock::get);
+        sts = new SessionTimerService(ssr, executor, wheel);
+    }
+
+    @AfterEach
+    void shutdown() {
+        sts.shutdown();
+    }
+
+    @Test
+    void firesJoinWindowTimersAndForgetsSession() {
+        ScheduledSession session = session("upcoming", NOW.plusHours(1));
+        sts.scheduleSessionTimers(session);
+        assertEquals(2, wheel.pendingTimers());
+
+        advanceTo(session.joinWindowStart());
+        assertEquals(1, executor.runQueued());
+        assertTrue(sts.hasSessionTimers("upcoming"));
+
+        advanceTo(session.joinWindowEnd());
+        assertEquals(1, executor.runQueued());
+        assertFalse(sts.hasSessionTimers("upcoming"));
+        assertEquals(0, wheel.pendingTimers());
+    }
+
+    @Test
+    void skipsSessionsThatCanNoLongerBeJoined() {
+        sts.scheduleSessionTimers(session("ended", NOW.minusHours(2)));
+
+        assertEquals(0, wheel.pendingTimers());
+        assertFalse(sts.hasSessionTimers("ended"));
+    }
+
+    @Test
+    void notifiesOpenedJoinWindowOfNewSession() {
+        sts.scheduleSessionTimers(session("starting", NOW.plusMinutes(5)));
+        assertEquals(2, wheel.pendingTimers());
+
+        advanceTo(NOW.plusSeconds(1));
+        assertEquals(1, executor.runQueued());
+    }
+
+    @Test
+    void skipsOpenedJoinWindowOnStartup() {
+        doAnswer(invocation -> {
+            Consumer<ScheduledSession> consumer = invocation.getArgument(1);
+            consumer.accept(session("in-progress", NOW.minusMinutes(5)));
+            consumer.accept(session("upcoming", NOW.plusHours(1)));
+            return null;
+        }).when(ssr).forEachScheduledSessionStartingAfter(eq(NOW.minusMinutes(75)), any());
+
+        sts.loadUpcomingSessions();
+
+        assertEquals(3, wheel.pendingTimers());
+        assertTrue(sts.hasSessionTimers("in-progress"));
+        assertTrue(sts.hasSessionTimers("upcoming"));
+
+        advanceTo(NOW.plusSeconds(1));
+        assertEquals(0, executor.runQueued());
+    }
+
+    @Test
+    void reschedulingCancelsPreviousTimers() {
+        sts.scheduleSessionTimers(session("moved", NOW.plusHours(1)));
+        sts.scheduleSessionTimers(session("moved", NOW.plusHours(3)));
+        assertEquals(2, wheel.pendingTimers());
+
+        advanceTo(session("moved", NOW.plusHours(1)).joinWindowEnd());
+        assertEquals(0, executor.runQueued());
+        assertTrue(sts.hasSessionTimers("moved"));
+    }
+
+    @Test
+    void staleJoinWindowClosedTimerKeepsRescheduledTimers() {
+        ScheduledSession session = session("moved", NOW.plusHours(1));
+        sts.scheduleSessionTimers(session);
+        advanceTo(session.joinWindowEnd());
+        // Both timers fired, but their callbacks have not run yet when the session is scheduled again
+        sts.scheduleSessionTimers(session("moved", NOW.plusHours(5)));
+
+        assertEquals(2, executor.runQueued());
+        assertTrue(sts.hasSessionTimers("moved"));
+        assertEquals(2, wheel.pendingTimers());
+    }
+
+    private ScheduledSession session(String sessionName, LocalDateTime startDate) {
+        return new ScheduledSession(sessionName, "passcode", startDate);
+    }
+
+    private void advanceTo(LocalDateTime now) {
+        clock.set(toEpochMillis(now));
+        wheel.advanceToNow();
+    }
+
+    private static long toEpochMillis(LocalDateTime date) {
+        return date.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Executor that queues callbacks until the test runs them, on the test thread
+     */
+    private static class QueuedExecutor extends AbstractExecutorService {
+        private final Deque<Runnable> queued = new ArrayDeque<>();
+        private boolean shutdown;
+
+        @Override
+        public void execute(Runnable command) {
+            queued.add(command);
+        }
+
+        int runQueued() {
+            int ran = 0;
+            while (!queued.isEmpty()) {
+                queued.poll().run();
+                ran++;
+            }
+            return ran;
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return List.copyOf(queued);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return shutdown;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.lars.examples.zoom.calendarapidemo.timer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Measures schedule, cancel and expire throughput and the heap used per pending timer.
+ * Skipped by default, run with: ./mvnw test -Dtest=TimingWheelBenchmark -Dbenchmark=true [-Dbenchmark.timers=2000000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TimingWheelBenchmark {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final long SPREAD_MILLIS = 30L * 24 * 60 * 60 * 1000; // deadlines spread over 30 days
+    private static final int ROUNDS = 3; // the first rounds warm up the JIT
+
+    private final int timers = Integer.getInteger("benchmark.timers", 1_000_000);
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void scheduleAndCancel() {
+        for (int round = 1; round <= ROUNDS; round++) {
+            TimingWheel wheel = createWheel(Runnable::run);
+            long[] deadlines = deadlines();
+            TimingWheel.Timeout[] timeouts = new TimingWheel.Timeout[timers];
+            Consumer<TimingWheel.Timeout> task = timeout -> {};
+
+            long heapBefore = usedHeap();
+            long start = System.nanoTime();
+            for (int i = 0; i < timers; i++) {
+                timeouts[i] = wheel.schedule(deadlines[i], task);
+            }
+            long scheduleNanos = System.nanoTime() - start;
+            long heapAfter = usedHeap();
+            assertEquals(timers, wheel.pendingTimers());
+
+            start = System.nanoTime();
+            for (int i = 0; i < timers; i++) {
+                timeouts[i].cancel();
+            }
+            long cancelNanos = System.nanoTime() - start;
+            assertEquals(0, wheel.pendingTimers());
+
+            System.out.printf("Round %d, %,d timers: schedule %,.0f ops/s, cancel %,.0f ops/s, %.1f bytes per pending timer%n",
+                    round, timers, opsPerSecond(scheduleNanos), opsPerSecond(cancelNanos),
+                    (double) (heapAfter - heapBefore) / timers);
+            wheel.shutdown();
+        }
+    }
+
+    @Test
+    void expire() {
+        for (int round = 1; round <= ROUNDS; round++) {
+            AtomicLong fired = new AtomicLong();
+            TimingWheel wheel = createWheel(Runnable::run);
+            Consumer<TimingWheel.Timeout> task = timeout -> fired.incrementAndGet();
+            for (long deadline : deadlines()) {
+                wheel.schedule(deadline, task);
+            }
+
+            // Includes walking every tick of the spread, as the ticker thread would
+            long start = System.nanoTime();
+            clock.set(SPREAD_MILLIS + TICK_MILLIS);
+            wheel.advanceToNow();
+            long expireNanos = System.nanoTime() - start;
+            assertEquals(timers, fired.get());
+
+            System.out.printf("Round %d, %,d timers: expire %,.0f ops/s%n", round, timers, opsPerSecond(expireNanos));
+            wheel.shutdown();
+        }
+    }
+
+    private TimingWheel createWheel(Executor executor) {
+        clock.set(0);
+        return new TimingWheel(TICK_MILLIS, executor, clock::get); // not started, the benchmark moves the clock itself
+    }
+
+    private long[] deadlines() {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] deadlines = new long[timers];
+        for (int i = 0; i < timers; i++) {
+            deadlines[i] = 1 + random.nextLong(SPREAD_MILLIS);
+        }
+        return deadlines;
+    }
+
+    private double opsPerSecond(long nanos) {
+        return timers * 1_000_000_000d / nanos;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,167 @@
+package com.lars.examples.zoom.calendarapidemo.timer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private TimingWheel wheel;
+
+    @AfterEach
+    void shutdown() {
+        wheel.shutdown();
+    }
+
+    @Test
+    void firesOnExactTickAndNeverEarly() {
+        createWheel(1000, 0);
+        List<Long> fired = new ArrayList<>();
+        // 1500 ms rounds up to tick 2, so it must not fire before 2000 ms
+        wheel.schedule(1500, () -> fired.add(clock.get()));
+
+        for (long now = 100; now <= 3000; now += 100) {
+            advanceTo(now);
+        }
+
+        assertEquals(List.of(2000L), fired);
+    }
+
+    @Test
+    void firesTimersAcrossCascadePoints() {
+        createWheel(1, 10);
+        long[] deadlines = { 11, 63, 64, 65, 100, 4095, 4096, 4097, 5000, 262144, 300000 };
+        Map<Long, Long> fired = new TreeMap<>();
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, () -> fired.put(deadline, clock.get()));
+        }
+
+        for (long now = 11; now <= 300001; now++) {
+            advanceTo(now);
+        }
+
+        assertEquals(deadlines.length, fired.size());
+        for (long deadline : deadlines) {
+            assertEquals(deadline, fired.get(deadline), "Timer with deadline " + deadline);
+        }
+    }
+
+    @Test
+    void firesPastDeadlinesOnNextTick() {
+        createWheel(1000, 5000);
+        List<Long> fired = new ArrayList<>();
+        wheel.schedule(1000, () -> fired.add(clock.get()));
+
+        advanceTo(5999);
+        assertTrue(fired.isEmpty());
+
+        advanceTo(6000);
+        assertEquals(List.of(6000L), fired);
+    }
+
+    @Test
+    void cancelReportsWhetherTimerWasPending() {
+        createWheel(1, 0);
+        List<String> fired = new ArrayList<>();
+        TimingWheel.Timeout cancelled = wheel.schedule(10, () -> fired.add("cancelled"));
+        TimingWheel.Timeout expired = wheel.schedule(10, () -> fired.add("expired"));
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+
+        advanceTo(10);
+        assertEquals(List.of("expired"), fired);
+        assertFalse(expired.cancel());
+    }
+
+    @Test
+    void tracksPendingTimers() {
+        createWheel(1, 0);
+        TimingWheel.Timeout cancelled = wheel.schedule(5, () -> {});
+        wheel.schedule(5, () -> {});
+        wheel.schedule(100, () -> {});
+        wheel.schedule(5000, () -> {});
+        assertEquals(4, wheel.pendingTimers());
+
+        cancelled.cancel();
+        assertEquals(3, wheel.pendingTimers());
+
+        advanceTo(5);
+        assertEquals(2, wheel.pendingTimers());
+
+        advanceTo(4999);
+        assertEquals(1, wheel.pendingTimers());
+
+        advanceTo(5000);
+        assertEquals(0, wheel.pendingTimers());
+    }
+
+    @Test
+    void keepsFiringWhenExecutorRejects() {
+        clock.set(0);
+        List<Long> fired = new ArrayList<>();
+        wheel = new TimingWheel(1, task -> {
+            if (clock.get() == 1) {
+                throw new IllegalStateException("rejected");
+            }
+            task.run();
+        }, clock::get);
+        wheel.schedule(1, () -> fired.add(clock.get()));
+        wheel.schedule(1, () -> fired.add(clock.get()));
+        wheel.schedule(2, () -> fired.add(clock.get()));
+
+        advanceTo(1);
+        advanceTo(2);
+
+        assertEquals(List.of(2L), fired);
+        assertEquals(0, wheel.pendingTimers());
+    }
+
+    @Test
+    void rejectsTimersAfterShutdown() {
+        createWheel(1, 0);
+        List<Long> fired = new ArrayList<>();
+        wheel.schedule(5, () -> fired.add(clock.get()));
+        wheel.shutdown();
+
+        TimingWheel.Timeout rejected = wheel.schedule(5, () -> fired.add(clock.get()));
+        assertEquals(0, wheel.pendingTimers());
+        assertFalse(rejected.cancel());
+
+        advanceTo(10);
+        assertTrue(fired.isEmpty());
+    }
+
+    @Test
+    void startsOnlyOnce() {
+        createWheel(1000, 0);
+        wheel.start();
+
+        assertThrows(IllegalStateException.class, wheel::start);
+    }
+
+    /**
+     * Creates a wheel on the fake clock, running callbacks on the calling thread. The wheel is not started, so it
+     * only advances when the test says so
+     */
+    private void createWheel(long tickMillis, long now) {
+        clock.set(now);
+        wheel = new TimingWheel(tickMillis, Runnable::run, clock::get);
+    }
+
+    private void advanceTo(long now) {
+        clock.set(now);
+        wheel.advanceToNow();
+    }
+}
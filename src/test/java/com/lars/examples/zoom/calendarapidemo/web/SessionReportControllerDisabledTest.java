@@ -0,0 +1,28 @@
+package com.lars.examples.zoom.calendarapidemo.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+// Other properties than the other tests means another application context, which needs its own in-memory database
+@SpringBootTest(properties = { "reports.token=", "spring.datasource.url=jdbc:h2:mem:reportsdisabledtest" })
+@AutoConfigureMockMvc
+class SessionReportControllerDisabledTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void reportsAreDisabledWithoutConfiguredToken() throws Exception {
+        mockMvc.perform(get("/reports/sessions/export").header(HttpHeaders.AUTHORIZATION, "Bearer "))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/reports/sessions/summary").param("from", "2030-01-01").param("to", "2030-01-02"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,170 @@
+package com.lars.examples.zoom.calendarapidemo.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lars.examples.zoom.calendarapidemo.repo.ScheduledSessionRepo;
+
+// Other properties than the other tests means another application context, which needs its own in-memory database
+@SpringBootTest(properties = { "reports.token=" + SessionReportControllerTest.REPORTS_TOKEN,
+        "spring.datasource.url=jdbc:h2:mem:reportstest" })
+@AutoConfigureMockMvc
+@Transactional
+class SessionReportControllerTest {
+
+    static final String REPORTS_TOKEN = "test-reports-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ScheduledSessionRepo ssr;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void insertSessions() {
+        ssr.insertScheduledSession(LocalDateTime.of(2030, 1, 1, 10, 0), "Plain session", "passcode",
+                "host-a@example.com", "first@example.com");
+        ssr.insertScheduledSession(LocalDateTime.of(2030, 1, 1, 14, 0), "Session, with comma", "passcode",
+                "host-b@example.com", "second@Other.ORG");
+        ssr.insertScheduledSession(LocalDateTime.of(2030, 1, 2, 9, 30), "Say \"hi\"", "passcode",
+                "host-a@example.com", "=cmd@other.org");
+        ssr.insertScheduledSession(LocalDateTime.of(2030, 1, 5, 9, 0), "Out of range", "passcode",
+                "host-c@example.com", "fourth@example.com");
+    }
+
+    @Test
+    void summarizesPerDay() throws Exception {
+        mockMvc.perform(summary().param("by", "day")
+                .param("from", "2030-01-01").param("to", "2030-01-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].group").value("2030-01-01"))
+                .andExpect(jsonPath("$[0].sessionCount").value(2))
+                .andExpect(jsonPath("$[1].group").value("2030-01-02"))
+                .andExpect(jsonPath("$[1].sessionCount").value(1));
+    }
+
+    @Test
+    void summarizesPerHost() throws Exception {
+        mockMvc.perform(summary().param("by", "host")
+                .param("from", "2030-01-01").param("to", "2030-01-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].group").value("host-a@example.com"))
+                .andExpect(jsonPath("$[0].sessionCount").value(2))
+                .andExpect(jsonPath("$[1].group").value("host-b@example.com"))
+                .andExpect(jsonPath("$[1].sessionCount").value(1));
+    }
+
+    @Test
+    void summarizesPerAttendeeDomain() throws Exception {
+        mockMvc.perform(summary().param("by", "domain")
+                .param("from", "2030-01-01").param("to", "2030-01-05"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].group").value("example.com"))
+                .andExpect(jsonPath("$[0].sessionCount").value(2))
+                .andExpect(jsonPath("$[1].group").value("other.org"))
+                .andExpect(jsonPath("$[1].sessionCount").value(2));
+    }
+
+    @Test
+    void exportsCsv() throws Exception {
+        String csv = mockMvc.perform(export().param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = csv.lines().toList();
+        assertEquals(5, lines.size());
+        assertTrue(csv.endsWith("\r\n"));
+        assertEquals(-1, csv.replace("\r\n", "").indexOf('\n'), "Every line ends with CRLF");
+        assertEquals("session_id,start_date,session_name,host_email,attendee_email", lines.get(0));
+        assertEquals(",2030-01-01T10:00:00,Plain session,host-a@example.com,first@example.com", withoutId(lines.get(1)));
+        assertEquals(",2030-01-01T14:00:00,\"Session, with comma\",host-b@example.com,second@Other.ORG",
+                withoutId(lines.get(2)));
+        assertEquals(",2030-01-02T09:30:00,\"Say \"\"hi\"\"\",host-a@example.com,\"'=cmd@other.org\"",
+                withoutId(lines.get(3)));
+    }
+
+    @Test
+    void exportsNdjson() throws Exception {
+        String ndjson = mockMvc.perform(export().param("format", "ndjson"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = ndjson.lines().toList();
+        assertEquals(4, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("2030-01-01T10:00:00", first.get("startDate").asText());
+        assertEquals("Plain session", first.get("sessionName").asText());
+        assertEquals("host-a@example.com", first.get("hostEmail").asText());
+        assertEquals("first@example.com", first.get("attendeeEmail").asText());
+        assertEquals("Say \"hi\"", objectMapper.readTree(lines.get(2)).get("sessionName").asText());
+    }
+
+    @Test
+    void rejectsUnsupportedFormat() throws Exception {
+        mockMvc.perform(export().param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsUnsupportedGrouping() throws Exception {
+        mockMvc.perform(summary().param("by", "week")
+                .param("from", "2030-01-01").param("to", "2030-01-02"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsMissingToken() throws Exception {
+        mockMvc.perform(get("/reports/sessions/export"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/reports/sessions/summary").param("from", "2030-01-01").param("to", "2030-01-02"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void rejectsWrongToken() throws Exception {
+        mockMvc.perform(get("/reports/sessions/export").header(HttpHeaders.AUTHORIZATION, "Bearer wrong-token"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/reports/sessions/summary").param("from", "2030-01-01").param("to", "2030-01-02")
+                .header(HttpHeaders.AUTHORIZATION, REPORTS_TOKEN))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static MockHttpServletRequestBuilder export() {
+        return get("/reports/sessions/export").header(HttpHeaders.AUTHORIZATION, "Bearer " + REPORTS_TOKEN);
+    }
+
+    private static MockHttpServletRequestBuilder summary() {
+        return get("/reports/sessions/summary").header(HttpHeaders.AUTHORIZATION, "Bearer " + REPORTS_TOKEN);
+    }
+
+    /**
+     * Strips the generated session id, which depends on the sessions inserted before
+     */
+    private static String withoutId(String line) {
+        return line.substring(line.indexOf(','));
+    }
+}